@@ -3,6 +3,7 @@ package hashguesser;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import com.mifmif.common.regex.util.Iterator;
 import static javax.swing.JOptionPane.ERROR_MESSAGE;
@@ -22,6 +23,10 @@ class HashGuesser implements Runnable {
     volatile String guess;
     private final boolean random;
     private MessageDigest msg;
+    private final int blockSize;
+    private boolean incremental;
+    private final ArrayList<MessageDigest> prefixStates;
+    private byte[] lastGuess;
     private final byte[] hash;
     private byte[] currentHash;
     private BigInteger hashCount;
@@ -40,6 +45,14 @@ class HashGuesser implements Runnable {
             showMessageDialog(null, String.format("Error creating thread with %s message digest!\n%s", hashAlgo, ex.getMessage()), "Error!", ERROR_MESSAGE);
             Thread.currentThread().interrupt();
         }
+        try {
+            incremental = msg != null && msg.clone() != null;
+        } catch(CloneNotSupportedException ex) {
+            incremental = false;
+        }
+        blockSize = blockSize(hashAlgo);
+        prefixStates = new ArrayList<>();
+        lastGuess = new byte[0];
         parser = new RegexParser(regex);
         name = newName;
         guess = "";
@@ -63,6 +76,53 @@ class HashGuesser implements Runnable {
         return a;
     }
     
+    /** Returns the number of input bytes consumed per compression-function call
+     * for the given algorithm, used as the spacing of cached prefix states.
+     */
+    private static int blockSize(String hashAlgo) {
+        switch (hashAlgo) {
+            case "MD2":
+                return 16;
+            case "SHA-384": case "SHA-512": case "SHA-512/224": case "SHA-512/256":
+                return 128;
+            case "SHA3-224":
+                return 144;
+            case "SHA3-256":
+                return 136;
+            case "SHA3-384":
+                return 104;
+            case "SHA3-512":
+                return 72;
+            default:
+                return 64;
+        }
+    }
+    
+    /** Hashes the next sequential guess, resuming from the deepest cached digest
+     * state whose full blocks are shared with the previous guess so that only
+     * the changed suffix is fed through the compression function.
+     */
+    private byte[] digestIncremental(byte[] bytes) throws CloneNotSupportedException {
+        int max = Math.min(Math.min(bytes.length, lastGuess.length), prefixStates.size() * blockSize);
+        int common = Arrays.mismatch(bytes, 0, max, lastGuess, 0, max);
+        if (common == -1)
+            common = max;
+        lastGuess = bytes;
+        
+        int depth = common / blockSize;
+        prefixStates.subList(depth, prefixStates.size()).clear();
+        
+        MessageDigest current = depth == 0 ? msg : (MessageDigest) prefixStates.get(depth-1).clone();
+        int offset = depth * blockSize;
+        while (bytes.length - offset > blockSize) {
+            current.update(bytes, offset, blockSize);
+            offset += blockSize;
+            prefixStates.add((MessageDigest) current.clone());
+        }
+        current.update(bytes, offset, bytes.length - offset);
+        return current.digest();
+    }
+    
     public static void pause() {pause = true;}
     public static void unpause() {
         pause = false;
@@ -99,11 +159,22 @@ class HashGuesser implements Runnable {
                 if (stop)
                     Thread.currentThread().interrupt();
                 else if (!pause) {
-                    if (random)
+                    if (random) {
                         guess = parser.getCandidate(random);
-                    else
+                        currentHash = msg.digest(guess.getBytes());
+                    } else {
                         guess = iter.next();
-                    currentHash = msg.digest(guess.getBytes());
+                        if (incremental)
+                            try {
+                                currentHash = digestIncremental(guess.getBytes());
+                            } catch (CloneNotSupportedException e) {
+                                incremental = false;
+                                msg.reset();
+                                currentHash = msg.digest(guess.getBytes());
+                            }
+                        else
+                            currentHash = msg.digest(guess.getBytes());
+                    }
                     for (int i = 0; i < currentHash.length; i++)
                         if (hash[i] != currentHash[i])
                             break;